@@ -0,0 +1,739 @@
+package ru.kravchenko.astontasks;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * The class describes asynchronous facade over MyHashMap, built on flat combining. Requests are pushed
+ * to a lock-free stack; the submitting thread then tries to become the combiner. The combiner takes all pushed
+ * requests at once, sorts them by bucket index and applies them in one pass over the array; a thread which finds
+ * another combiner active returns at once, as the stack is checked again after the role is given up. So there is
+ * no lock handoff and no dedicated thread: under contention one thread serves the requests of many.
+ * The futures of a batch are completed after the role is given up, so that woken clients do not find it taken,
+ * but still in the order the batches were applied: a thread completing a batch first completes the earlier
+ * batches which are not completed yet, instead of waiting for their completers.
+ * <p>
+ * Before the indices are computed the array is extended for all puts of the batch, so no put resizes it
+ * and the operations are applied in non-decreasing bucket order. Every key is hashed once per operation.
+ * Operations on the same key are applied in submission order. A failure of an operation (for example, a key
+ * whose hashCode or equals throws) fails only the request it belongs to; operations of that request
+ * applied before the failure stay in the map.
+ * <p>
+ * Futures are completed on the combining thread, which may be the thread of another client,
+ * so dependent actions should not block.
+ *
+ * @param <K> key type.
+ * @param <V> value type.
+ * @author Kravchenko Yury
+ * @version 2.0.0
+ */
+public class AsyncMap<K, V> implements AutoCloseable {
+
+    /**
+     * Value returned by the map for absent keys, distinguishable from null values.
+     */
+    private static final Object ABSENT = new Object();
+
+    /**
+     * Initial length of the buffers of the batch.
+     */
+    private static final int DEFAULT_BATCH_LENGTH = 64;
+
+    /**
+     * Map to which the requests are applied.
+     */
+    private final MyHashMap<K, V> map;
+
+    /**
+     * Head of the stack of requests waiting for the combiner; {@link #closedMarker} once closed.
+     */
+    private final AtomicReference<Request<K, V>> requests = new AtomicReference<>();
+
+    /**
+     * Head of the stack after the facade is closed.
+     */
+    private final Request<K, V> closedMarker = new ShutdownRequest<>();
+
+    /**
+     * Thread applying requests to the map at the moment, or null.
+     */
+    private final AtomicReference<Thread> combiner = new AtomicReference<>();
+
+    /**
+     * Has closing been requested.
+     */
+    private volatile boolean closing;
+
+    /**
+     * Last batch whose requests are all completed; the batches applied after it are linked from it.
+     */
+    private final AtomicReference<Batch<K, V>> completedBatch = new AtomicReference<>(new Batch<>(null, 0));
+
+    /**
+     * Last applied batch; changed by the combiner only, like the buffers below.
+     */
+    private volatile Batch<K, V> appliedBatch = completedBatch.get();
+
+    /**
+     * Request of every operation of the batch, by position in the batch.
+     */
+    private Request<?, ?>[] operationRequests = new Request[DEFAULT_BATCH_LENGTH];
+
+    /**
+     * Index of every operation of the batch within its request, by position in the batch.
+     */
+    private int[] operationIndices = new int[DEFAULT_BATCH_LENGTH];
+
+    /**
+     * Hash code of the key of every operation of the batch, by position in the batch.
+     */
+    private int[] operationHashes = new int[DEFAULT_BATCH_LENGTH];
+
+    /**
+     * Bucket index in the high half and position in the batch in the low half, sorted to order the batch.
+     */
+    private long[] operationOrder = new long[DEFAULT_BATCH_LENGTH];
+
+    /**
+     * Constructor with a new empty map.
+     */
+    public AsyncMap() {
+        this(new MyHashMap<>());
+    }
+
+    /**
+     * Constructor receives the map to be owned. The map must not be accessed directly afterwards.
+     *
+     * @param map map to be owned.
+     */
+    public AsyncMap(MyHashMap<K, V> map) {
+        this.map = map;
+    }
+
+    /**
+     * Method returns value, associated with the key.
+     *
+     * @param key the key whose associated value is to be returned.
+     * @return future of the value, associated with the key.
+     */
+    public CompletableFuture<V> get(K key) {
+        return submit(new GetRequest<>(key));
+    }
+
+    /**
+     * Method returns values, associated with the keys.
+     *
+     * @param keys the keys whose associated values are to be returned.
+     * @return future of the map containing the keys presented in the map with their values.
+     */
+    public CompletableFuture<Map<K, V>> getAll(Collection<? extends K> keys) {
+        return submit(new GetAllRequest<>(keys.toArray()));
+    }
+
+    /**
+     * Method adds key and value, associated with the key, to the map.
+     *
+     * @param key   key with which the specified value is to be associated.
+     * @param value value to be associated with the specified key.
+     * @return future completed when the value is stored.
+     */
+    public CompletableFuture<Void> put(K key, V value) {
+        return submit(new PutRequest<>(key, value));
+    }
+
+    /**
+     * Method adds all elements from obtained map to the map.
+     *
+     * @param entries mappings to be stored in the map.
+     * @return future completed when all mappings are stored.
+     */
+    public CompletableFuture<Void> putAll(Map<? extends K, ? extends V> entries) {
+        Object[] keys = new Object[entries.size()];
+        Object[] values = new Object[keys.length];
+        int i = 0;
+        for (Map.Entry<? extends K, ? extends V> entry : entries.entrySet()) {
+            keys[i] = entry.getKey();
+            values[i++] = entry.getValue();
+        }
+        return submit(new PutAllRequest<>(keys, values));
+    }
+
+    /**
+     * Method closes the facade: requests submitted before are applied, later ones fail
+     * with IllegalStateException. The method returns once the last batch is completed; the batches
+     * which are not completed yet are completed by the calling thread, so it may be called from a dependent action.
+     * Called by the combiner itself (from hashCode or equals of a key), it closes the facade after the current batch.
+     */
+    @Override
+    public void close() {
+        closing = true;
+        if (combiner.get() == Thread.currentThread()) {
+            return;
+        }
+        while (requests.get() != closedMarker) {
+            combine();
+            if (requests.get() != closedMarker) {
+                Thread.yield();
+            }
+        }
+        while (true) {
+            completeBatches(appliedBatch);
+            if (combiner.get() == null && completedBatch.get() == appliedBatch) {
+                return;
+            }
+            Thread.yield();
+        }
+    }
+
+    /**
+     * Method queues the request and applies pending requests, unless another thread is applying them already.
+     *
+     * @param request request to be queued.
+     * @param <R>     result type of the request.
+     * @return future of the request result.
+     */
+    private <R> CompletableFuture<R> submit(ResultRequest<K, V, R> request) {
+        if (push(request)) {
+            combine();
+        } else {
+            request.future.completeExceptionally(new IllegalStateException("The map is closed."));
+        }
+        return request.future;
+    }
+
+    /**
+     * Method pushes the request to the stack.
+     *
+     * @param request request to be pushed.
+     * @return is the request pushed; false if the facade is closed.
+     */
+    private boolean push(Request<K, V> request) {
+        Request<K, V> head;
+        do {
+            head = requests.get();
+            if (head == closedMarker) {
+                return false;
+            }
+            request.next = head;
+        } while (!requests.compareAndSet(head, request));
+        return true;
+    }
+
+    /**
+     * Method applies pending requests as batches while there are any and no other thread is the combiner.
+     * The stack is checked again after the role is given up, so a request pushed while another thread
+     * was combining is never left behind. A batch which cannot be applied at all (for example, when extending
+     * the array fails with OutOfMemoryError) fails its requests with the cause; the next batches are still applied.
+     */
+    private void combine() {
+        Thread current = Thread.currentThread();
+        while (hasWork() && combiner.compareAndSet(null, current)) {
+            Request<K, V> first;
+            Batch<K, V> batch = null;
+            try {
+                first = reverse(takeAll());
+                if (first != null) {
+                    try {
+                        applyBatch(first);
+                    } catch (RuntimeException | Error e) {
+                        for (Request<K, V> request = first; request != null; request = request.next) {
+                            if (request.failure == null) {
+                                request.failure = e;
+                            }
+                        }
+                    }
+                    batch = new Batch<>(first, appliedBatch.number + 1);
+                    appliedBatch.next = batch;
+                    appliedBatch = batch;
+                }
+                if (closing) {
+                    requests.compareAndSet(null, closedMarker);
+                }
+            } finally {
+                combiner.set(null);
+            }
+            if (batch != null) {
+                completeBatches(batch);
+            }
+        }
+    }
+
+    /**
+     * Method checks if the combiner has anything to do: apply pending requests or close the facade.
+     *
+     * @return is there work for the combiner.
+     */
+    private boolean hasWork() {
+        Request<K, V> head = requests.get();
+        return head != closedMarker && (head != null || closing);
+    }
+
+    /**
+     * Method takes all pushed requests, leaving the closed marker in place.
+     *
+     * @return head of the taken stack of requests or null if there are none.
+     */
+    private Request<K, V> takeAll() {
+        while (true) {
+            Request<K, V> head = requests.get();
+            if (head == null || head == closedMarker) {
+                return null;
+            }
+            if (requests.compareAndSet(head, null)) {
+                return head;
+            }
+        }
+    }
+
+    /**
+     * Method reverses the taken stack of requests in place, so that the requests are linked in submission order.
+     *
+     * @param head head of the taken stack of requests or null.
+     * @return first submitted request or null if there are none.
+     */
+    private Request<K, V> reverse(Request<K, V> head) {
+        Request<K, V> first = null;
+        while (head != null) {
+            Request<K, V> next = head.next;
+            head.next = first;
+            first = head;
+            head = next;
+        }
+        return first;
+    }
+
+    /**
+     * Method applies operations of all requests sorted by bucket index. The array is extended for all puts
+     * of the batch first, so the indices stay valid during the whole pass. Positions in the batch break ties,
+     * so operations on the same key keep their order. Failures are isolated per request: the cause is recorded
+     * in the failed request and its remaining operations are skipped.
+     *
+     * @param first first request of the batch.
+     */
+    private void applyBatch(Request<K, V> first) {
+        int count = 0;
+        long puts = 0;
+        for (Request<K, V> request = first; request != null; request = request.next) {
+            count += request.operationCount();
+            puts += request.putCount();
+        }
+        ensureBatchLength(count);
+        map.ensureCapacity(map.size() + puts);
+        int position = 0;
+        int ordered = 0;
+        for (Request<K, V> request = first; request != null; request = request.next) {
+            for (int i = 0; i < request.operationCount(); i++, position++) {
+                operationRequests[position] = request;
+                operationIndices[position] = i;
+                if (request.failure != null) {
+                    continue;
+                }
+                try {
+                    int hash = map.hashCode(request.key(i));
+                    operationHashes[position] = hash;
+                    operationOrder[ordered++] = (long) map.bucketIndex(hash) << Integer.SIZE | position;
+                } catch (RuntimeException | Error e) {
+                    request.failure = e;
+                }
+            }
+        }
+        Arrays.sort(operationOrder, 0, ordered);
+        for (int i = 0; i < ordered; i++) {
+            int operation = (int) operationOrder[i];
+            Request<K, V> request = (Request<K, V>) operationRequests[operation];
+            if (request.failure != null) {
+                continue;
+            }
+            try {
+                request.apply(operationIndices[operation], operationHashes[operation], map);
+            } catch (RuntimeException | Error e) {
+                request.failure = e;
+            }
+        }
+        Arrays.fill(operationRequests, 0, count, null);
+    }
+
+    /**
+     * Method completes the requests of the applied batches up to the obtained one, in order of application.
+     * Batches completed by other threads meanwhile are completed again, which has no effect. A batch left behind
+     * is unlinked, so that it cannot keep the later ones reachable once it is promoted to the old generation.
+     *
+     * @param batch last batch to be completed.
+     */
+    private void completeBatches(Batch<K, V> batch) {
+        Batch<K, V> completed = completedBatch.get();
+        while (completed.number < batch.number) {
+            Batch<K, V> next = completed.next;
+            if (next != null) {
+                for (Request<K, V> request = next.first; request != null; request = request.next) {
+                    request.complete();
+                }
+                if (completedBatch.compareAndSet(completed, next)) {
+                    completed.first = null;
+                    completed.next = null;
+                }
+            }
+            completed = completedBatch.get();
+        }
+    }
+
+    /**
+     * Method extends the buffers of the batch, if they are shorter than the quantity of operations.
+     *
+     * @param count quantity of operations of the batch.
+     */
+    private void ensureBatchLength(int count) {
+        if (operationRequests.length < count) {
+            int length = Math.max(count, operationRequests.length * MyHashMap.EXPANSION_COEFFICIENT);
+            operationRequests = new Request[length];
+            operationIndices = new int[length];
+            operationHashes = new int[length];
+            operationOrder = new long[length];
+        }
+    }
+
+    /**
+     * The class describes batch of requests applied by the combiner at once.
+     *
+     * @param <K> key type.
+     * @param <V> value type.
+     */
+    private static class Batch<K, V> {
+
+        /**
+         * First request of the batch; the requests are linked in submission order.
+         */
+        private volatile Request<K, V> first;
+
+        /**
+         * Number of the batch in order of application, starting with 1.
+         */
+        private final long number;
+
+        /**
+         * Batch applied after this one.
+         */
+        private volatile Batch<K, V> next;
+
+        private Batch(Request<K, V> first, long number) {
+            this.first = first;
+            this.number = number;
+        }
+    }
+
+    /**
+     * The class describes request submitted to the combiner. A request consists of operations
+     * on single keys, addressed by their index within the request.
+     *
+     * @param <K> key type.
+     * @param <V> value type.
+     */
+    private abstract static class Request<K, V> {
+
+        /**
+         * Request pushed before this one.
+         */
+        private Request<K, V> next;
+
+        /**
+         * Cause of the failure of the request, or null.
+         */
+        protected Throwable failure;
+
+        /**
+         * Method returns quantity of operations of the request.
+         *
+         * @return quantity of operations.
+         */
+        abstract int operationCount();
+
+        /**
+         * Method returns key of the operation.
+         *
+         * @param index index of the operation within the request.
+         * @return key of the operation.
+         */
+        abstract Object key(int index);
+
+        /**
+         * Method applies the operation to the map.
+         *
+         * @param index index of the operation within the request.
+         * @param hash  hash code for the key of the operation.
+         * @param map   map to which the operation is applied.
+         */
+        abstract void apply(int index, int hash, MyHashMap<K, V> map);
+
+        /**
+         * Method returns quantity of puts of the request, used to extend the array before the batch.
+         *
+         * @return quantity of puts.
+         */
+        int putCount() {
+            return 0;
+        }
+
+        /**
+         * Method completes the request after the batch is applied, exceptionally if it has failed.
+         * Completing the request again has no effect.
+         */
+        abstract void complete();
+    }
+
+    /**
+     * The class describes request which produces result through a future.
+     *
+     * @param <K> key type.
+     * @param <V> value type.
+     * @param <R> result type.
+     */
+    private abstract static class ResultRequest<K, V, R> extends Request<K, V> {
+
+        /**
+         * Future of the request result.
+         */
+        protected final CompletableFuture<R> future = new CompletableFuture<>();
+
+        /**
+         * Method returns result of the applied request.
+         *
+         * @return result of the request.
+         */
+        abstract R result();
+
+        @Override
+        void complete() {
+            if (future.isDone()) {
+                return;
+            }
+            if (failure == null) {
+                future.complete(result());
+            } else {
+                future.completeExceptionally(failure);
+            }
+        }
+    }
+
+    /**
+     * The class describes request for value of the key.
+     *
+     * @param <K> key type.
+     * @param <V> value type.
+     */
+    private static class GetRequest<K, V> extends ResultRequest<K, V, V> {
+
+        /**
+         * Requested key.
+         */
+        private final K key;
+
+        /**
+         * Found value.
+         */
+        private V value;
+
+        private GetRequest(K key) {
+            this.key = key;
+        }
+
+        @Override
+        int operationCount() {
+            return 1;
+        }
+
+        @Override
+        Object key(int index) {
+            return key;
+        }
+
+        @Override
+        void apply(int index, int hash, MyHashMap<K, V> map) {
+            value = map.getHashed(key, hash, null);
+        }
+
+        @Override
+        V result() {
+            return value;
+        }
+    }
+
+    /**
+     * The class describes request for values of the keys.
+     *
+     * @param <K> key type.
+     * @param <V> value type.
+     */
+    private static class GetAllRequest<K, V> extends ResultRequest<K, V, Map<K, V>> {
+
+        /**
+         * Requested keys.
+         */
+        private final Object[] keys;
+
+        /**
+         * Found values by index of the key, ABSENT for absent keys.
+         */
+        private final Object[] values;
+
+        private GetAllRequest(Object[] keys) {
+            this.keys = keys;
+            this.values = new Object[keys.length];
+        }
+
+        @Override
+        int operationCount() {
+            return keys.length;
+        }
+
+        @Override
+        Object key(int index) {
+            return keys[index];
+        }
+
+        @Override
+        void apply(int index, int hash, MyHashMap<K, V> map) {
+            values[index] = map.getHashed(keys[index], hash, (V) ABSENT);
+        }
+
+        @Override
+        Map<K, V> result() {
+            Map<K, V> result = new HashMap<>();
+            for (int i = 0; i < keys.length; i++) {
+                if (values[i] != ABSENT) {
+                    result.put((K) keys[i], (V) values[i]);
+                }
+            }
+            return result;
+        }
+    }
+
+    /**
+     * The class describes request for storing the mapping.
+     *
+     * @param <K> key type.
+     * @param <V> value type.
+     */
+    private static class PutRequest<K, V> extends ResultRequest<K, V, Void> {
+
+        /**
+         * Key to be stored.
+         */
+        private final K key;
+
+        /**
+         * Value to be stored.
+         */
+        private final V value;
+
+        private PutRequest(K key, V value) {
+            this.key = key;
+            this.value = value;
+        }
+
+        @Override
+        int operationCount() {
+            return 1;
+        }
+
+        @Override
+        Object key(int index) {
+            return key;
+        }
+
+        @Override
+        void apply(int index, int hash, MyHashMap<K, V> map) {
+            map.putHashed(key, value, hash);
+        }
+
+        @Override
+        int putCount() {
+            return 1;
+        }
+
+        @Override
+        Void result() {
+            return null;
+        }
+    }
+
+    /**
+     * The class describes request for storing the mappings.
+     *
+     * @param <K> key type.
+     * @param <V> value type.
+     */
+    private static class PutAllRequest<K, V> extends ResultRequest<K, V, Void> {
+
+        /**
+         * Keys to be stored.
+         */
+        private final Object[] keys;
+
+        /**
+         * Values to be stored, by index of the key.
+         */
+        private final Object[] values;
+
+        private PutAllRequest(Object[] keys, Object[] values) {
+            this.keys = keys;
+            this.values = values;
+        }
+
+        @Override
+        int operationCount() {
+            return keys.length;
+        }
+
+        @Override
+        Object key(int index) {
+            return keys[index];
+        }
+
+        @Override
+        void apply(int index, int hash, MyHashMap<K, V> map) {
+            map.putHashed((K) keys[index], (V) values[index], hash);
+        }
+
+        @Override
+        int putCount() {
+            return keys.length;
+        }
+
+        @Override
+        Void result() {
+            return null;
+        }
+    }
+
+    /**
+     * The class describes marker placed on the stack once the facade is closed.
+     *
+     * @param <K> key type.
+     * @param <V> value type.
+     */
+    private static class ShutdownRequest<K, V> extends Request<K, V> {
+
+        @Override
+        int operationCount() {
+            return 0;
+        }
+
+        @Override
+        Object key(int index) {
+            throw new IndexOutOfBoundsException(index);
+        }
+
+        @Override
+        void apply(int index, int hash, MyHashMap<K, V> map) {
+            throw new IndexOutOfBoundsException(index);
+        }
+
+        @Override
+        void complete() {
+        }
+    }
+}
@@ -1,10 +1,17 @@
 package ru.kravchenko.astontasks;
 
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
 import java.util.AbstractMap;
+import java.util.AbstractSet;
 import java.util.Arrays;
 import java.util.Collection;
-import java.util.HashSet;
+import java.util.Iterator;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Objects;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -15,9 +22,14 @@ import java.util.stream.Collectors;
  * @param <K> key type.
  * @param <V> value type.
  * @author Kravchenko Yury
- * @version 2.0.1
+ * @version 2.1.1
  */
-public class MyHashMap<K, V> extends AbstractMap<K, V> implements Map<K, V> {
+public class MyHashMap<K, V> extends AbstractMap<K, V> implements Map<K, V>, Cloneable, Externalizable {
+
+    /**
+     * Version of the serialized form.
+     */
+    private static final long serialVersionUID = 1L;
 
     /**
      * Load factor by default.
@@ -34,6 +46,11 @@ public class MyHashMap<K, V> extends AbstractMap<K, V> implements Map<K, V> {
      */
     public static final int EXPANSION_COEFFICIENT = 2;
 
+    /**
+     * Maximum length of the array allocated while reading the map from a stream or presizing it.
+     */
+    private static final int MAX_ARRAY_LENGTH = Integer.MAX_VALUE - 8;
+
     /**
      * Array length.
      */
@@ -45,9 +62,9 @@ public class MyHashMap<K, V> extends AbstractMap<K, V> implements Map<K, V> {
     private int size;
 
     /**
-     * Load factor.
+     * Load factor (not final, as it is restored by {@link #readExternal(ObjectInput)}).
      */
-    private final float loadFactor;
+    private float loadFactor;
 
     /**
      * Array of nodes.
@@ -122,7 +139,7 @@ public class MyHashMap<K, V> extends AbstractMap<K, V> implements Map<K, V> {
      */
     @Override
     public boolean containsKey(Object key) {
-        return keySet().stream().anyMatch(presentKey -> presentKey.equals(key));
+        return getNode(key) != null;
     }
 
     /**
@@ -133,7 +150,7 @@ public class MyHashMap<K, V> extends AbstractMap<K, V> implements Map<K, V> {
      */
     @Override
     public boolean containsValue(Object value) {
-        return values().stream().anyMatch(presentValue -> presentValue.equals(value));
+        return values().stream().anyMatch(presentValue -> Objects.equals(presentValue, value));
     }
 
     /**
@@ -144,29 +161,8 @@ public class MyHashMap<K, V> extends AbstractMap<K, V> implements Map<K, V> {
      */
     @Override
     public V get(Object key) {
-        int hash = hashCode(key);
-        int index = getIndex(hash, arrayLength);
-        Node<K, V> node = nodesArray[index];
-        if (node == null) {
-            return null;
-        }
-        K nodeKey = node.key;
-        if (key == null && nodeKey == null) {
-            return node.value;
-        }
-        while (node.next != null) {
-            if (hash == node.hashCode) {
-                if (key != null && key.equals(node.getKey())) {
-                    return node.value;
-                }
-            } else {
-                node = node.next;
-            }
-        }
-        if (key != null && key.equals(node.getKey())) {
-            return node.value;
-        }
-        return null;
+        Node<K, V> node = getNode(key);
+        return node == null ? null : node.value;
     }
 
     /**
@@ -178,31 +174,36 @@ public class MyHashMap<K, V> extends AbstractMap<K, V> implements Map<K, V> {
      */
     @Override
     public V put(K key, V value) {
-        int hash = hashCode(key);
+        return putHashed(key, value, hashCode(key));
+    }
+
+    /**
+     * Method adds key, whose hash code has already been computed, and associated value to the map.
+     *
+     * @param key   key with which the specified value is to be associated.
+     * @param value value to be associated with the specified key.
+     * @param hash  hash code for the key, as returned by {@link #hashCode(Object)}.
+     * @return added value, associated with the key.
+     */
+    V putHashed(K key, V value, int hash) {
         int index = getIndex(hash, arrayLength);
         Node<K, V> node = nodesArray[index];
         if (node == null) {
-            node = new Node<>(key, value, hash, null);
-            nodesArray[index] = node;
-            size++;
-            increaseSize();
-        } else if (key != null && node.key != null) {
-            while (node.next != null) {
-                if (key.equals(node.getKey())) {
-                    node.setValue(value);
+            nodesArray[index] = new Node<>(key, value, hash, null);
+        } else {
+            while (true) {
+                if (hash == node.hashCode && Objects.equals(key, node.key)) {
+                    return node.setValue(value);
+                }
+                if (node.next == null) {
+                    break;
                 }
                 node = node.next;
             }
-            if (key.equals(node.getKey())) {
-                node.setValue(value);
-            } else {
-                node.next = new Node<>(key, value, hash, null);
-                size++;
-                increaseSize();
-            }
-        } else {
-            nodesArray[index] = new Node<>(key, value, hash, null);
+            node.next = new Node<>(key, value, hash, null);
         }
+        size++;
+        increaseSize();
         return value;
     }
 
@@ -216,31 +217,20 @@ public class MyHashMap<K, V> extends AbstractMap<K, V> implements Map<K, V> {
     public V remove(Object key) {
         int hash = hashCode(key);
         int index = getIndex(hash, arrayLength);
-        if (nodesArray[index] != null) {
-            Node<K, V> node = nodesArray[index];
-            Node<K, V> prevNode = null;
-            if (node.key == null) {
-                node = nodesArray[index];
-                nodesArray[index] = null;
+        Node<K, V> node = nodesArray[index];
+        Node<K, V> prevNode = null;
+        while (node != null) {
+            if (hash == node.hashCode && Objects.equals(key, node.key)) {
+                if (prevNode == null) {
+                    nodesArray[index] = node.next;
+                } else {
+                    prevNode.next = node.next;
+                }
                 size--;
                 return node.value;
             }
-            while (node != null) {
-                if (hash == node.hashCode && node.key.equals(key)) {
-                    if (prevNode == null) {
-                        node = nodesArray[index];
-                        nodesArray[index] = nodesArray[index].next;
-                        size--;
-                        return node.value;
-                    } else {
-                        prevNode.next = node.next;
-                        size--;
-                        return node.value;
-                    }
-                }
-                prevNode = node;
-                node = node.next;
-            }
+            prevNode = node;
+            node = node.next;
         }
         return null;
     }
@@ -262,6 +252,7 @@ public class MyHashMap<K, V> extends AbstractMap<K, V> implements Map<K, V> {
      */
     @Override
     public void clear() {
+        arrayLength = DEFAULT_LENGTH;
         nodesArray = new Node[DEFAULT_LENGTH];
         size = 0;
     }
@@ -283,24 +274,18 @@ public class MyHashMap<K, V> extends AbstractMap<K, V> implements Map<K, V> {
      */
     @Override
     public Collection<V> values() {
-        return entrySet().stream().map(Entry::getValue).collect(Collectors.toSet());
+        return entrySet().stream().map(Entry::getValue).collect(Collectors.toList());
     }
 
     /**
-     * Method returns set of contained entries.
+     * Method returns set of contained entries. The set is a view backed by the map: it walks the bucket chains
+     * and never hashes the nodes. The map must not be modified while iterating, except through the iterator.
      *
      * @return set of contained entries.
      */
     @Override
     public Set<Entry<K, V>> entrySet() {
-        Set<Entry<K, V>> set = new HashSet<>();
-        for (Node<K, V> node : nodesArray) {
-            while (node != null) {
-                set.add(node);
-                node = node.next;
-            }
-        }
-        return set;
+        return new EntrySet();
     }
 
     /**
@@ -320,17 +305,169 @@ public class MyHashMap<K, V> extends AbstractMap<K, V> implements Map<K, V> {
                 && Arrays.equals(nodesArray, myHashMap.nodesArray);
     }
 
+    /**
+     * Method returns a shallow copy of the map: keys and values are not cloned.
+     * The bucket structure is copied node by node with cached hash codes, so no key is rehashed.
+     *
+     * @return shallow copy of the map.
+     */
+    @Override
+    public MyHashMap<K, V> clone() {
+        MyHashMap<K, V> result;
+        try {
+            result = (MyHashMap<K, V>) super.clone();
+        } catch (CloneNotSupportedException e) {
+            throw new InternalError(e);
+        }
+        Node<K, V>[] newNodesArray = new Node[arrayLength];
+        for (int i = 0; i < arrayLength; i++) {
+            Node<K, V> node = nodesArray[i];
+            Node<K, V> tail = null;
+            while (node != null) {
+                Node<K, V> copy = new Node<>(node.key, node.value, node.hashCode, null);
+                if (tail == null) {
+                    newNodesArray[i] = copy;
+                } else {
+                    tail.next = copy;
+                }
+                tail = copy;
+                node = node.next;
+            }
+        }
+        result.nodesArray = newNodesArray;
+        return result;
+    }
+
+    /**
+     * Method writes the map to the stream: size, array length and load factor headers,
+     * followed by keys and values in bucket order.
+     *
+     * @param out the stream to write the map to.
+     * @throws IOException if I/O errors occur.
+     */
+    @Override
+    public void writeExternal(ObjectOutput out) throws IOException {
+        out.writeInt(size);
+        out.writeInt(arrayLength);
+        out.writeFloat(loadFactor);
+        for (Node<K, V> node : nodesArray) {
+            while (node != null) {
+                out.writeObject(node.key);
+                out.writeObject(node.value);
+                node = node.next;
+            }
+        }
+    }
+
+    /**
+     * Method reads the map from the stream. The array is allocated once and every key is hashed exactly once,
+     * without intermediate resizing. The stored array length is only a hint: the allocated length is derived
+     * from the size and the load factor, so a corrupted header cannot force a huge allocation.
+     *
+     * @param in the stream to read the map from.
+     * @throws IOException            if I/O errors occur or the headers are corrupted.
+     * @throws ClassNotFoundException if the class of a key or value cannot be found.
+     */
+    @Override
+    public void readExternal(ObjectInput in) throws IOException, ClassNotFoundException {
+        int readSize = in.readInt();
+        int readArrayLength = in.readInt();
+        float readLoadFactor = in.readFloat();
+        if (readSize < 0 || readArrayLength <= 0 || !(readLoadFactor > 0)) {
+            throw new InvalidObjectException("Corrupted map headers.");
+        }
+        double minArrayLength = Math.max(1, Math.ceil(readSize / (double) readLoadFactor));
+        if (minArrayLength > MAX_ARRAY_LENGTH) {
+            throw new InvalidObjectException("Too many elements in the stream: " + readSize);
+        }
+        double maxArrayLength = Math.min(MAX_ARRAY_LENGTH,
+                Math.max(DEFAULT_LENGTH, minArrayLength) * EXPANSION_COEFFICIENT);
+        readArrayLength = (int) Math.max(minArrayLength, Math.min(readArrayLength, maxArrayLength));
+        Node<K, V>[] newNodesArray = new Node[readArrayLength];
+        for (int i = 0; i < readSize; i++) {
+            K key = (K) in.readObject();
+            V value = (V) in.readObject();
+            int hash = hashCode(key);
+            int index = getIndex(hash, readArrayLength);
+            Node<K, V> newNode = new Node<>(key, value, hash, null);
+            Node<K, V> node = newNodesArray[index];
+            if (node == null) {
+                newNodesArray[index] = newNode;
+            } else {
+                while (node.next != null) {
+                    node = node.next;
+                }
+                node.next = newNode;
+            }
+        }
+        nodesArray = newNodesArray;
+        arrayLength = readArrayLength;
+        loadFactor = readLoadFactor;
+        size = readSize;
+    }
+
     public Node<K, V>[] getNodesArray() {
         return nodesArray;
     }
 
+    /**
+     * Method returns index of the bucket for the hash code with the current array length.
+     *
+     * @param hash hash code for the key, as returned by {@link #hashCode(Object)}.
+     * @return index of the bucket.
+     */
+    int bucketIndex(int hash) {
+        return getIndex(hash, arrayLength);
+    }
+
+    /**
+     * Method returns value, associated with the key, whose hash code has already been computed.
+     *
+     * @param key         the key whose associated value is to be returned.
+     * @param hash        hash code for the key, as returned by {@link #hashCode(Object)}.
+     * @param absentValue value to be returned if the key is not presented.
+     * @return value, associated with the key, or absentValue.
+     */
+    V getHashed(Object key, int hash, V absentValue) {
+        Node<K, V> node = getNode(key, hash);
+        return node == null ? absentValue : node.value;
+    }
+
+    /**
+     * Method returns the node associated with the key.
+     *
+     * @param key the key whose node is to be returned.
+     * @return node associated with the key or null if there is no such node.
+     */
+    private Node<K, V> getNode(Object key) {
+        return getNode(key, hashCode(key));
+    }
+
+    /**
+     * Method returns the node associated with the key, whose hash code has already been computed.
+     *
+     * @param key  the key whose node is to be returned.
+     * @param hash hash code for the key.
+     * @return node associated with the key or null if there is no such node.
+     */
+    private Node<K, V> getNode(Object key, int hash) {
+        Node<K, V> node = nodesArray[getIndex(hash, arrayLength)];
+        while (node != null) {
+            if (hash == node.hashCode && Objects.equals(key, node.key)) {
+                return node;
+            }
+            node = node.next;
+        }
+        return null;
+    }
+
     /**
      * Method returns the hash code for obtained key.
      *
      * @param key obtained key for which hash code should be produced.
      * @return hash code for the key.
      */
-    private int hashCode(Object key) {
+    int hashCode(Object key) {
         return key == null ? 0 : key.hashCode();
     }
 
@@ -342,33 +479,198 @@ public class MyHashMap<K, V> extends AbstractMap<K, V> implements Map<K, V> {
      * @return the element index.
      */
     private int getIndex(int hash, int length) {
-        return Math.abs(hash) % length;
+        return (hash & Integer.MAX_VALUE) % length;
     }
 
     /**
-     * Method checks if array must be extended and if so (load factor is exceeded), extends the array.
+     * Method checks if array must be extended and if so (load factor is exceeded), extends the array
+     * as many times as needed for the load factor to hold, which matters for load factors below 1 / length.
      */
     private void increaseSize() {
         if (arrayLength * loadFactor < size) {
-            int newArrayLength = arrayLength * EXPANSION_COEFFICIENT;
-            Node<K, V>[] newNodesArray = new Node[newArrayLength];
-            Set<Entry<K, V>> entrySet = entrySet();
-            for (Entry<K, V> entry : entrySet) {
-                Node<K, V> nodeFromEntry = (Node<K, V>) entry;
-                nodeFromEntry.next = null;
-                int newIndex = getIndex(nodeFromEntry.hashCode, newArrayLength);
-                Node<K, V> node = newNodesArray[newIndex];
-                if (node == null) {
-                    newNodesArray[newIndex] = nodeFromEntry;
+            ensureCapacity(size);
+        }
+    }
+
+    /**
+     * Method extends the array once, so that the expected quantity of items can be stored without resizing.
+     *
+     * @param expectedSize expected quantity of stored items.
+     */
+    void ensureCapacity(long expectedSize) {
+        int newArrayLength = arrayLength;
+        while (newArrayLength * loadFactor < expectedSize
+                && newArrayLength <= MAX_ARRAY_LENGTH / EXPANSION_COEFFICIENT) {
+            newArrayLength *= EXPANSION_COEFFICIENT;
+        }
+        if (newArrayLength != arrayLength) {
+            resize(newArrayLength);
+        }
+    }
+
+    /**
+     * Method moves all nodes to a new array of the given length, keeping the order of nodes in every chain.
+     * Cached hash codes are used, so keys are not rehashed.
+     *
+     * @param newArrayLength length of the new array.
+     */
+    private void resize(int newArrayLength) {
+        Node<K, V>[] newNodesArray = new Node[newArrayLength];
+        for (Node<K, V> node : nodesArray) {
+            while (node != null) {
+                Node<K, V> next = node.next;
+                node.next = null;
+                int newIndex = getIndex(node.hashCode, newArrayLength);
+                Node<K, V> tail = newNodesArray[newIndex];
+                if (tail == null) {
+                    newNodesArray[newIndex] = node;
                 } else {
-                    while (node.next != null) {
-                        node = node.next;
+                    while (tail.next != null) {
+                        tail = tail.next;
                     }
-                    node.next = nodeFromEntry;
+                    tail.next = node;
+                }
+                node = next;
+            }
+        }
+        nodesArray = newNodesArray;
+        arrayLength = newArrayLength;
+    }
+
+    /**
+     * The class describes set of the map entries, backed by the array of nodes.
+     *
+     * @author Kravchenko Yury
+     * @version 1.0.0
+     */
+    private class EntrySet extends AbstractSet<Entry<K, V>> {
+
+        /**
+         * Method returns quantity of stored items.
+         *
+         * @return quantity of stored items.
+         */
+        @Override
+        public int size() {
+            return size;
+        }
+
+        /**
+         * Method checks if the entry is presented in the map, looking the key up in its bucket.
+         *
+         * @param object entry whose presence is to be checked.
+         * @return is entry presented.
+         */
+        @Override
+        public boolean contains(Object object) {
+            if (!(object instanceof Map.Entry<?, ?> entry)) return false;
+            Node<K, V> node = getNode(entry.getKey());
+            return node != null && Objects.equals(node.value, entry.getValue());
+        }
+
+        /**
+         * Method returns iterator over the bucket chains.
+         *
+         * @return iterator over the entries.
+         */
+        @Override
+        public Iterator<Entry<K, V>> iterator() {
+            return new EntryIterator();
+        }
+
+        /**
+         * Method clears the map.
+         */
+        @Override
+        public void clear() {
+            MyHashMap.this.clear();
+        }
+    }
+
+    /**
+     * The class describes iterator over the map entries, which walks the array and the bucket chains.
+     *
+     * @author Kravchenko Yury
+     * @version 1.0.0
+     */
+    private class EntryIterator implements Iterator<Entry<K, V>> {
+
+        /**
+         * Index of the next bucket to be visited.
+         */
+        private int index;
+
+        /**
+         * Node to be returned next.
+         */
+        private Node<K, V> next;
+
+        /**
+         * Node returned last, to be removed by {@link #remove()}.
+         */
+        private Node<K, V> lastReturned;
+
+        /**
+         * Constructor of the iterator, positioned at the first node.
+         */
+        private EntryIterator() {
+            next = advance(null);
+        }
+
+        /**
+         * Method checks if there are more entries.
+         *
+         * @return are there more entries.
+         */
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        /**
+         * Method returns the next entry.
+         *
+         * @return the next entry.
+         */
+        @Override
+        public Entry<K, V> next() {
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+            lastReturned = next;
+            next = advance(next);
+            return lastReturned;
+        }
+
+        /**
+         * Method removes from the map the entry returned last.
+         */
+        @Override
+        public void remove() {
+            if (lastReturned == null) {
+                throw new IllegalStateException("The entry has already been removed or not returned yet.");
+            }
+            MyHashMap.this.remove(lastReturned.key);
+            lastReturned = null;
+        }
+
+        /**
+         * Method returns the node following the obtained one in the chain or in the next non-empty bucket.
+         *
+         * @param node current node or null at the start.
+         * @return the following node or null if there are no more nodes.
+         */
+        private Node<K, V> advance(Node<K, V> node) {
+            if (node != null && node.next != null) {
+                return node.next;
+            }
+            while (index < nodesArray.length) {
+                Node<K, V> head = nodesArray[index++];
+                if (head != null) {
+                    return head;
                 }
             }
-            nodesArray = newNodesArray;
-            arrayLength = newArrayLength;
+            return null;
         }
     }
 
@@ -378,9 +680,9 @@ public class MyHashMap<K, V> extends AbstractMap<K, V> implements Map<K, V> {
      * @param <K> key type.
      * @param <V> value type.
      * @author Kravchenko Yury
-     * @version 1.0.7
+     * @version 1.0.9
      */
-    private class Node<K, V> implements Map.Entry<K, V> {
+    private static class Node<K, V> implements Map.Entry<K, V> {
 
         /**
          * The field that stores the key.
@@ -451,6 +753,7 @@ public class MyHashMap<K, V> extends AbstractMap<K, V> implements Map<K, V> {
 
         /**
          * Method compares for equality obtained object with the map node.
+         * As required by Map.Entry, any entry with equal key and value is equal to the node.
          *
          * @param object object to be compared for equality with this map node.
          * @return are the node and object equal.
@@ -458,22 +761,19 @@ public class MyHashMap<K, V> extends AbstractMap<K, V> implements Map<K, V> {
         @Override
         public boolean equals(Object object) {
             if (this == object) return true;
-            if (!(object instanceof Map.Entry<?, ?>)) return false;
-            Node<?, ?> node = (Node<?, ?>) object;
-            return hashCode == node.hashCode
-                    && Objects.equals(key, node.key)
-                    && Objects.equals(value, node.value)
-                    && Objects.equals(next, node.next);
+            if (!(object instanceof Map.Entry<?, ?> entry)) return false;
+            return Objects.equals(key, entry.getKey())
+                    && Objects.equals(value, entry.getValue());
         }
 
         /**
-         * Method returns hash code calculated for the node.
+         * Method returns hash code calculated for the node, as defined by Map.Entry.
          *
          * @return hash code for the node.
          */
         @Override
         public int hashCode() {
-            return Objects.hash(key, value, next, hashCode);
+            return Objects.hashCode(key) ^ Objects.hashCode(value);
         }
 
         /**
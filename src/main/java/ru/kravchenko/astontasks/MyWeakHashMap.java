@@ -0,0 +1,398 @@
+package ru.kravchenko.astontasks;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.AbstractMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * The class describes my own implementation of HashMap with weakly referenced keys.
+ * An entry is removed automatically once its key is no longer strongly reachable:
+ * nodes cleared by the garbage collector are expunged lazily, on the next access to the map.
+ *
+ * @param <K> key type.
+ * @param <V> value type.
+ * @author Kravchenko Yury
+ * @version 1.0.0
+ */
+public class MyWeakHashMap<K, V> extends AbstractMap<K, V> implements Map<K, V> {
+
+    /**
+     * Load factor by default.
+     */
+    private static final float DEFAULT_LOAD_FACTOR = 0.75f;
+
+    /**
+     * Initial length of the array by default.
+     */
+    private static final int DEFAULT_LENGTH = 16;
+
+    /**
+     * Array expansion coefficient.
+     */
+    public static final int EXPANSION_COEFFICIENT = 2;
+
+    /**
+     * Strongly reachable object stored instead of the null key, so that it is never cleared.
+     */
+    private static final Object NULL_KEY = new Object();
+
+    /**
+     * Array length.
+     */
+    private int arrayLength;
+
+    /**
+     * Quantity of stored items.
+     */
+    private int size;
+
+    /**
+     * Load factor.
+     */
+    private final float loadFactor;
+
+    /**
+     * Array of nodes.
+     */
+    private Node<K, V>[] nodesArray;
+
+    /**
+     * Queue of nodes whose keys have been cleared by the garbage collector.
+     */
+    private final ReferenceQueue<Object> queue = new ReferenceQueue<>();
+
+    /**
+     * Constructor with parameters by default.
+     */
+    public MyWeakHashMap() {
+        this(DEFAULT_LENGTH, DEFAULT_LOAD_FACTOR);
+    }
+
+    /**
+     * Constructor receives custom length of the array.
+     *
+     * @param arrayLength length of the array.
+     */
+    public MyWeakHashMap(int arrayLength) {
+        this(arrayLength, DEFAULT_LOAD_FACTOR);
+    }
+
+    /**
+     * Constructor receives custom load factor of the map.
+     *
+     * @param loadFactor load factor of the map.
+     */
+    public MyWeakHashMap(float loadFactor) {
+        this(DEFAULT_LENGTH, loadFactor);
+    }
+
+    /**
+     * Constructor receives custom length of the array and load factor of the map.
+     *
+     * @param arrayLength length of the array.
+     * @param loadFactor  load factor of the map.
+     */
+    public MyWeakHashMap(int arrayLength, float loadFactor) {
+        if (arrayLength <= 0 || loadFactor <= 0) {
+            throw new IllegalArgumentException("The parameters must be positive.");
+        }
+        this.arrayLength = arrayLength;
+        this.loadFactor = loadFactor;
+        this.nodesArray = new Node[arrayLength];
+    }
+
+    /**
+     * Method returns quantity of stored items whose keys have not been expunged yet.
+     *
+     * @return quantity of stored items.
+     */
+    @Override
+    public int size() {
+        expungeStaleNodes();
+        return size;
+    }
+
+    /**
+     * Method checks if the map is empty.
+     *
+     * @return is map empty.
+     */
+    @Override
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * Method checks if the key is presented in the map.
+     *
+     * @param key key whose presence in this map is to be checked.
+     * @return is key presented.
+     */
+    @Override
+    public boolean containsKey(Object key) {
+        expungeStaleNodes();
+        return getNode(key) != null;
+    }
+
+    /**
+     * Method returns value, associated with key from the map.
+     *
+     * @param key the key whose associated value is to be returned.
+     * @return value, associated with the key.
+     */
+    @Override
+    public V get(Object key) {
+        expungeStaleNodes();
+        Node<K, V> node = getNode(key);
+        return node == null ? null : node.value;
+    }
+
+    /**
+     * Method adds key and value, associated with the key, to the map.
+     *
+     * @param key   key with which the specified value is to be associated.
+     * @param value value to be associated with the specified key.
+     * @return added value, associated with the key.
+     */
+    @Override
+    public V put(K key, V value) {
+        expungeStaleNodes();
+        Object maskedKey = maskNull(key);
+        int hash = maskedKey.hashCode();
+        int index = getIndex(hash, arrayLength);
+        for (Node<K, V> node = nodesArray[index]; node != null; node = node.next) {
+            if (hash == node.hashCode && maskedKey.equals(node.get())) {
+                node.value = value;
+                return value;
+            }
+        }
+        nodesArray[index] = new Node<>(maskedKey, value, hash, nodesArray[index], queue);
+        size++;
+        increaseSize();
+        return value;
+    }
+
+    /**
+     * Method removes key and associated value from the map.
+     *
+     * @param key key whose mapping is to be removed from the map.
+     * @return removed value.
+     */
+    @Override
+    public V remove(Object key) {
+        expungeStaleNodes();
+        Object maskedKey = maskNull(key);
+        int hash = maskedKey.hashCode();
+        int index = getIndex(hash, arrayLength);
+        Node<K, V> node = nodesArray[index];
+        Node<K, V> prevNode = null;
+        while (node != null) {
+            if (hash == node.hashCode && maskedKey.equals(node.get())) {
+                V value = node.value;
+                unlink(index, prevNode, node);
+                return value;
+            }
+            prevNode = node;
+            node = node.next;
+        }
+        return null;
+    }
+
+    /**
+     * Method clears the map.
+     */
+    @Override
+    public void clear() {
+        while (queue.poll() != null) {
+            // Nodes from the old array must not be expunged from the new one.
+        }
+        arrayLength = DEFAULT_LENGTH;
+        nodesArray = new Node[DEFAULT_LENGTH];
+        size = 0;
+    }
+
+    /**
+     * Method returns set of contained entries. The set is a snapshot which holds the keys strongly
+     * while it is reachable; changes of the snapshot are not reflected in the map.
+     *
+     * @return set of contained entries.
+     */
+    @Override
+    public Set<Entry<K, V>> entrySet() {
+        expungeStaleNodes();
+        Set<Entry<K, V>> set = new HashSet<>();
+        for (Node<K, V> node : nodesArray) {
+            while (node != null) {
+                Object key = node.get();
+                if (key != null) {
+                    set.add(new SimpleEntry<>(unmaskNull(key), node.value));
+                }
+                node = node.next;
+            }
+        }
+        return set;
+    }
+
+    /**
+     * Method returns the node associated with the key.
+     *
+     * @param key the key whose node is to be returned.
+     * @return node associated with the key or null if there is no such node.
+     */
+    private Node<K, V> getNode(Object key) {
+        Object maskedKey = maskNull(key);
+        int hash = maskedKey.hashCode();
+        Node<K, V> node = nodesArray[getIndex(hash, arrayLength)];
+        while (node != null) {
+            if (hash == node.hashCode && maskedKey.equals(node.get())) {
+                return node;
+            }
+            node = node.next;
+        }
+        return null;
+    }
+
+    /**
+     * Method removes from the array all nodes whose keys have been cleared by the garbage collector.
+     * Only the enqueued nodes are visited, so the cost depends on the quantity of stale nodes, not on the size.
+     */
+    private void expungeStaleNodes() {
+        for (Object reference; (reference = queue.poll()) != null; ) {
+            Node<K, V> staleNode = (Node<K, V>) reference;
+            int index = getIndex(staleNode.hashCode, arrayLength);
+            Node<K, V> node = nodesArray[index];
+            Node<K, V> prevNode = null;
+            while (node != null) {
+                if (node == staleNode) {
+                    unlink(index, prevNode, node);
+                    break;
+                }
+                prevNode = node;
+                node = node.next;
+            }
+        }
+    }
+
+    /**
+     * Method unlinks the node from the chain stored in the array.
+     *
+     * @param index    index of the chain in the array.
+     * @param prevNode previous node in the chain or null if the node is the head.
+     * @param node     node to be unlinked.
+     */
+    private void unlink(int index, Node<K, V> prevNode, Node<K, V> node) {
+        if (prevNode == null) {
+            nodesArray[index] = node.next;
+        } else {
+            prevNode.next = node.next;
+        }
+        node.value = null;
+        node.next = null;
+        size--;
+    }
+
+    /**
+     * Method returns the element index by hash code and length of the array.
+     *
+     * @param hash   hash code for the element key.
+     * @param length length of the array.
+     * @return the element index.
+     */
+    private int getIndex(int hash, int length) {
+        return (hash & Integer.MAX_VALUE) % length;
+    }
+
+    /**
+     * Method checks if array must be extended and if so (load factor is exceeded), extends the array.
+     * Nodes whose keys have already been cleared are dropped instead of being transferred.
+     */
+    private void increaseSize() {
+        if (arrayLength * loadFactor < size) {
+            int newArrayLength = arrayLength * EXPANSION_COEFFICIENT;
+            Node<K, V>[] newNodesArray = new Node[newArrayLength];
+            for (Node<K, V> node : nodesArray) {
+                while (node != null) {
+                    Node<K, V> next = node.next;
+                    if (node.get() == null) {
+                        node.value = null;
+                        node.next = null;
+                        size--;
+                    } else {
+                        int newIndex = getIndex(node.hashCode, newArrayLength);
+                        node.next = newNodesArray[newIndex];
+                        newNodesArray[newIndex] = node;
+                    }
+                    node = next;
+                }
+            }
+            nodesArray = newNodesArray;
+            arrayLength = newArrayLength;
+        }
+    }
+
+    /**
+     * Method replaces the null key with the special object.
+     *
+     * @param key obtained key.
+     * @return key to be stored in the node.
+     */
+    private static Object maskNull(Object key) {
+        return key == null ? NULL_KEY : key;
+    }
+
+    /**
+     * Method replaces the special object with the null key.
+     *
+     * @param key key stored in the node.
+     * @return key to be returned to the user.
+     */
+    private static <K> K unmaskNull(Object key) {
+        return key == NULL_KEY ? null : (K) key;
+    }
+
+    /**
+     * The class describes node object that stores the weakly referenced key and value in an array.
+     *
+     * @param <K> key type.
+     * @param <V> value type.
+     * @author Kravchenko Yury
+     * @version 1.0.0
+     */
+    private static class Node<K, V> extends WeakReference<Object> {
+
+        /**
+         * The field that stores the value.
+         */
+        private V value;
+
+        /**
+         * Link to the next node.
+         */
+        private Node<K, V> next;
+
+        /**
+         * Hash code for the key, kept to locate the node after the key is cleared.
+         */
+        private final int hashCode;
+
+        /**
+         * Constructor of the node object.
+         *
+         * @param key      key with which the value is associated.
+         * @param value    value associated with the specified key.
+         * @param hashCode hash code for the key.
+         * @param next     link to the next node.
+         * @param queue    queue the node is enqueued to once the key is cleared.
+         */
+        private Node(Object key, V value, int hashCode, Node<K, V> next, ReferenceQueue<Object> queue) {
+            super(key, queue);
+            this.value = value;
+            this.hashCode = hashCode;
+            this.next = next;
+        }
+    }
+}
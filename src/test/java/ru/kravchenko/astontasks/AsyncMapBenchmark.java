@@ -0,0 +1,102 @@
+package ru.kravchenko.astontasks;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Simple benchmark comparing AsyncMap with Collections.synchronizedMap(MyHashMap) under 10000 concurrent clients.
+ * Clients run on virtual threads when the runtime supports them (Java 21+), otherwise on a fixed thread pool.
+ * It is not run by the test phase; launch it manually via its main method.
+ */
+public class AsyncMapBenchmark {
+
+    private static final int CLIENTS = 10000;
+
+    private static final int KEYS_PER_CLIENT = 32;
+
+    private static final int KEY_RANGE = 100000;
+
+    private static final int ROUNDS = 5;
+
+    public static void main(String[] args) throws Exception {
+        for (int round = 0; round < ROUNDS; round++) {
+            Map<Integer, Integer> synchronizedMap = Collections.synchronizedMap(new MyHashMap<>());
+            long synchronizedNanos = measure(client -> {
+                Map<Integer, Integer> batch = batch(client);
+                synchronizedMap.putAll(batch);
+                Map<Integer, Integer> values = new HashMap<>();
+                synchronized (synchronizedMap) {
+                    for (Integer key : batch.keySet()) {
+                        Integer value = synchronizedMap.get(key);
+                        if (value != null) {
+                            values.put(key, value);
+                        }
+                    }
+                }
+            });
+            try (AsyncMap<Integer, Integer> asyncMap = new AsyncMap<>()) {
+                long asyncNanos = measure(client -> {
+                    Map<Integer, Integer> batch = batch(client);
+                    List<Integer> keys = new ArrayList<>(batch.keySet());
+                    asyncMap.putAll(batch);
+                    asyncMap.getAll(keys).join();
+                });
+                System.out.printf("round %d: synchronized %8.2f ms, async %8.2f ms%n",
+                        round, synchronizedNanos / 1e6, asyncNanos / 1e6);
+            }
+        }
+    }
+
+    /**
+     * Method builds the mappings of the client; both maps get the same input and produce the same result map.
+     */
+    private static Map<Integer, Integer> batch(int client) {
+        Map<Integer, Integer> batch = new HashMap<>();
+        for (int i = 0; i < KEYS_PER_CLIENT; i++) {
+            int key = key(client, i);
+            batch.put(key, key);
+        }
+        return batch;
+    }
+
+    private static int key(int client, int i) {
+        return (client * KEYS_PER_CLIENT + i) * 31 % KEY_RANGE;
+    }
+
+    private static long measure(Client client) throws Exception {
+        ExecutorService executor = newClientExecutor();
+        try {
+            long start = System.nanoTime();
+            List<Future<?>> futures = new ArrayList<>(CLIENTS);
+            for (int i = 0; i < CLIENTS; i++) {
+                int id = i;
+                futures.add(executor.submit(() -> client.run(id)));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            return System.nanoTime() - start;
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static ExecutorService newClientExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newFixedThreadPool(256);
+        }
+    }
+
+    private interface Client {
+
+        void run(int id);
+    }
+}
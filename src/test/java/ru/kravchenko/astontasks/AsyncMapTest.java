@@ -0,0 +1,287 @@
+package ru.kravchenko.astontasks;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+class AsyncMapTest {
+
+    @Test
+    void putTest() {
+        try (AsyncMap<String, Integer> asyncMap = new AsyncMap<>()) {
+            asyncMap.put("key", 125).join();
+            Assertions.assertEquals(125, asyncMap.get("key").join());
+            Assertions.assertNull(asyncMap.get("absent").join());
+        }
+    }
+
+    @Test
+    void getAllTest() {
+        try (AsyncMap<String, Integer> asyncMap = new AsyncMap<>()) {
+            Map<String, Integer> entries = new HashMap<>();
+            for (int i = 0; i < 100; i++) {
+                entries.put("key " + i, i);
+            }
+            entries.put(null, -1);
+            asyncMap.putAll(entries).join();
+            List<String> keys = new ArrayList<>(entries.keySet());
+            keys.add("absent");
+            Assertions.assertEquals(entries, asyncMap.getAll(keys).join());
+        }
+    }
+
+    @Test
+    void getAllTestSubmissionOrder() {
+        try (AsyncMap<String, Integer> asyncMap = new AsyncMap<>()) {
+            CompletableFuture<Map<String, Integer>> before = asyncMap.getAll(List.of("key"));
+            asyncMap.put("key", 1);
+            asyncMap.put("key", 2);
+            CompletableFuture<Integer> after = asyncMap.get("key");
+            Assertions.assertTrue(before.join().isEmpty());
+            Assertions.assertEquals(2, after.join());
+        }
+    }
+
+    @Test
+    void putAllTestConcurrentClients() {
+        int clients = 64;
+        int keysPerClient = 500;
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try (AsyncMap<Integer, Integer> asyncMap = new AsyncMap<>()) {
+            List<CompletableFuture<Void>> futures = new ArrayList<>();
+            for (int client = 0; client < clients; client++) {
+                int offset = client * keysPerClient;
+                futures.add(CompletableFuture.runAsync(() -> {
+                    for (int i = offset; i < offset + keysPerClient; i++) {
+                        asyncMap.put(i, i);
+                    }
+                }, executor));
+            }
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+            List<Integer> keys = new ArrayList<>();
+            for (int i = 0; i < clients * keysPerClient; i++) {
+                keys.add(i);
+            }
+            Map<Integer, Integer> values = asyncMap.getAll(keys).join();
+            Assertions.assertEquals(clients * keysPerClient, values.size());
+            values.forEach(Assertions::assertEquals);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void putTestPoisonedKeysFailOnlyTheirRequests() throws InterruptedException {
+        try (AsyncMap<Object, Integer> asyncMap = new AsyncMap<>()) {
+            asyncMap.put(1, 1).join();
+            BlockingKey blockingKey = new BlockingKey();
+            CompletableFuture<Void> blocked = putInBackground(asyncMap, blockingKey);
+            blockingKey.entered.await();
+            List<CompletableFuture<Void>> goodFutures = new ArrayList<>();
+            for (int i = 100; i < 150; i++) {
+                goodFutures.add(asyncMap.put(i, i));
+            }
+            CompletableFuture<Void> hashCodeFuture = asyncMap.put(new HashCodeThrowingKey(), 0);
+            CompletableFuture<Void> equalsFuture = asyncMap.put(new EqualsThrowingKey(), 0);
+            for (int i = 150; i < 200; i++) {
+                goodFutures.add(asyncMap.put(i, i));
+            }
+            blockingKey.release.countDown();
+            blocked.join();
+            Assertions.assertThrows(CompletionException.class, hashCodeFuture::join);
+            Assertions.assertThrows(CompletionException.class, equalsFuture::join);
+            for (CompletableFuture<Void> future : goodFutures) {
+                Assertions.assertDoesNotThrow(future::join);
+            }
+            for (int i = 100; i < 200; i++) {
+                Assertions.assertEquals(i, asyncMap.get(i).join());
+            }
+        }
+    }
+
+    @Test
+    void putAllTestBucketOrder() {
+        MyHashMap<RecordingKey, Integer> myHashMap = new MyHashMap<>();
+        List<RecordingKey> calls = Collections.synchronizedList(new ArrayList<>());
+        Map<RecordingKey, Integer> entries = new HashMap<>();
+        Random random = new Random(42L);
+        random.ints(0, Integer.MAX_VALUE).distinct().limit(5000).forEach(id -> {
+            myHashMap.put(new RecordingKey(id, true, calls), id);
+            entries.put(new RecordingKey(id, false, calls), id);
+        });
+        calls.clear();
+        try (AsyncMap<RecordingKey, Integer> asyncMap = new AsyncMap<>(myHashMap)) {
+            asyncMap.putAll(entries).join();
+        }
+        Assertions.assertEquals(2 * entries.size(), myHashMap.size());
+        int arrayLength = ((Object[]) myHashMap.getNodesArray()).length;
+        Assertions.assertEquals(entries.size(), calls.size());
+        for (int i = 1; i < calls.size(); i++) {
+            Assertions.assertTrue(calls.get(i - 1).id % arrayLength <= calls.get(i).id % arrayLength);
+        }
+    }
+
+    @Test
+    void closeTest() {
+        AsyncMap<String, Integer> asyncMap = new AsyncMap<>();
+        CompletableFuture<Void> submitted = asyncMap.put("key", 1);
+        asyncMap.close();
+        Assertions.assertTrue(submitted.isDone());
+        CompletionException exception = Assertions.assertThrows(CompletionException.class,
+                () -> asyncMap.get("key").join());
+        Assertions.assertInstanceOf(IllegalStateException.class, exception.getCause());
+    }
+
+    @Test
+    void closeTestFromDependentAction() {
+        AsyncMap<String, Integer> asyncMap = new AsyncMap<>();
+        Assertions.assertTimeoutPreemptively(Duration.ofSeconds(10),
+                () -> asyncMap.put("key", 1).thenRun(asyncMap::close).join());
+        CompletionException exception = Assertions.assertThrows(CompletionException.class,
+                () -> asyncMap.get("key").join());
+        Assertions.assertInstanceOf(IllegalStateException.class, exception.getCause());
+    }
+
+    @Test
+    void closeTestConcurrentCallersWaitForLastBatch() throws InterruptedException {
+        AsyncMap<Object, Integer> asyncMap = new AsyncMap<>();
+        BlockingKey blockingKey = new BlockingKey();
+        CompletableFuture<Void> blocked = putInBackground(asyncMap, blockingKey);
+        blockingKey.entered.await();
+        CompletableFuture<Void> pending = asyncMap.put("key", 1);
+        List<Thread> closers = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            Thread closer = new Thread(asyncMap::close);
+            closer.start();
+            closers.add(closer);
+        }
+        Thread.sleep(200);
+        for (Thread closer : closers) {
+            Assertions.assertTrue(closer.isAlive());
+        }
+        blockingKey.release.countDown();
+        for (Thread closer : closers) {
+            closer.join(10000);
+            Assertions.assertFalse(closer.isAlive());
+        }
+        Assertions.assertTrue(blocked.isDone());
+        Assertions.assertTrue(pending.isDone());
+        Assertions.assertDoesNotThrow(pending::join);
+    }
+
+    @Test
+    void applyTestBatchFailureDoesNotStopLaterBatches() {
+        MyHashMap<String, Integer> myHashMap = new MyHashMap<>() {
+
+            private boolean failed;
+
+            @Override
+            void ensureCapacity(long expectedSize) {
+                if (!failed) {
+                    failed = true;
+                    throw new OutOfMemoryError("ensureCapacity");
+                }
+                super.ensureCapacity(expectedSize);
+            }
+        };
+        try (AsyncMap<String, Integer> asyncMap = new AsyncMap<>(myHashMap)) {
+            CompletionException exception = Assertions.assertThrows(CompletionException.class,
+                    () -> asyncMap.put("key", 1).join());
+            Assertions.assertInstanceOf(OutOfMemoryError.class, exception.getCause());
+            asyncMap.put("key", 2).join();
+            Assertions.assertEquals(2, asyncMap.get("key").join());
+        }
+    }
+
+    /**
+     * Method submits a put from a new thread, which becomes the combiner and may block there.
+     */
+    private static CompletableFuture<Void> putInBackground(AsyncMap<Object, Integer> asyncMap, Object key) {
+        CompletableFuture<Void> result = new CompletableFuture<>();
+        new Thread(() -> asyncMap.put(key, 0).whenComplete((ignored, throwable) -> {
+            if (throwable == null) {
+                result.complete(null);
+            } else {
+                result.completeExceptionally(throwable);
+            }
+        })).start();
+        return result;
+    }
+
+    /**
+     * Key whose hashCode call blocks the combining thread until released.
+     */
+    private static class BlockingKey {
+
+        private final CountDownLatch entered = new CountDownLatch(1);
+
+        private final CountDownLatch release = new CountDownLatch(1);
+
+        @Override
+        public int hashCode() {
+            entered.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return 0;
+        }
+    }
+
+    private static class HashCodeThrowingKey {
+
+        @Override
+        public int hashCode() {
+            throw new IllegalStateException("hashCode");
+        }
+    }
+
+    /**
+     * Key sharing the hash code with Integer 1, so that equals is called on put.
+     */
+    private static class EqualsThrowingKey {
+
+        @Override
+        public int hashCode() {
+            return 1;
+        }
+
+        @Override
+        public boolean equals(Object object) {
+            throw new IllegalStateException("equals");
+        }
+    }
+
+    /**
+     * Key recording every equals call made by a put against a shadow key with the same hash code,
+     * so that the order of applied operations can be checked.
+     */
+    private record RecordingKey(int id, boolean shadow, List<RecordingKey> calls) {
+
+        @Override
+        public int hashCode() {
+            return id;
+        }
+
+        @Override
+        public boolean equals(Object object) {
+            if (!shadow) {
+                calls.add(this);
+            }
+            return object instanceof RecordingKey key && key.id == id && key.shadow == shadow;
+        }
+    }
+}
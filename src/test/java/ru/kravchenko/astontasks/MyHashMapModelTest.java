@@ -0,0 +1,161 @@
+package ru.kravchenko.astontasks;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Randomized differential test: runs the same operation sequence against MyHashMap
+ * and java.util.HashMap in lockstep and compares every result.
+ */
+class MyHashMapModelTest {
+
+    @ParameterizedTest
+    @ValueSource(longs = {1L, 42L, 2024L, 7_777_777L})
+    void randomOperationsTest(long seed) {
+        runRandomOperations(seed, 20000, 64);
+    }
+
+    @ParameterizedTest
+    @ValueSource(longs = {3L, 11L})
+    void randomOperationsTestWideKeyRange(long seed) {
+        runRandomOperations(seed, 20000, 4096);
+    }
+
+    @Test
+    void identityValuesTest() {
+        MyHashMap<Integer, Integer> myHashMap = new MyHashMap<>();
+        Map<Integer, Integer> model = new HashMap<>();
+        for (int i = 0; i < 100000; i++) {
+            myHashMap.put(i, i);
+            model.put(i, i);
+        }
+        Assertions.assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+            Assertions.assertFalse(myHashMap.containsValue(-1));
+            Assertions.assertTrue(myHashMap.containsValue(99999));
+            Assertions.assertEquals(model.entrySet(), myHashMap.entrySet());
+            Assertions.assertEquals(myHashMap.entrySet(), model.entrySet());
+            Assertions.assertEquals(model.hashCode(), myHashMap.hashCode());
+            Assertions.assertEquals(model.keySet(), myHashMap.keySet());
+            Assertions.assertEquals(model.size(), myHashMap.values().size());
+            Assertions.assertEquals(model, myHashMap);
+            Assertions.assertEquals(model.toString().length(), myHashMap.toString().length());
+        });
+    }
+
+    /**
+     * Method runs random operations against both maps and fails on the first divergence.
+     * Note that MyHashMap.put returns the new value rather than the previous one.
+     *
+     * @param seed       seed of the operation sequence, printed on failure to reproduce it.
+     * @param operations quantity of operations.
+     * @param keyRange   quantity of distinct keys.
+     */
+    static void runRandomOperations(long seed, int operations, int keyRange) {
+        Random random = new Random(seed);
+        MyHashMap<CollidingKey, Integer> myHashMap = new MyHashMap<>(1 + random.nextInt(32));
+        Map<CollidingKey, Integer> model = new HashMap<>();
+        for (int step = 0; step < operations; step++) {
+            String context = "seed " + seed + ", step " + step;
+            CollidingKey key = randomKey(random, keyRange);
+            int operation = random.nextInt(100);
+            if (operation < 35) {
+                Integer value = random.nextInt(10) == 0 ? null : random.nextInt();
+                model.put(key, value);
+                Assertions.assertEquals(value, myHashMap.put(key, value), context);
+            } else if (operation < 60) {
+                Assertions.assertEquals(model.get(key), myHashMap.get(key), context);
+            } else if (operation < 75) {
+                Assertions.assertEquals(model.remove(key), myHashMap.remove(key), context);
+            } else if (operation < 90) {
+                Assertions.assertEquals(model.containsKey(key), myHashMap.containsKey(key), context);
+            } else if (operation < 93) {
+                Integer value = model.isEmpty() || random.nextBoolean() ? Integer.valueOf(random.nextInt()) : model.get(key);
+                Assertions.assertEquals(model.containsValue(value), myHashMap.containsValue(value), context);
+            } else if (operation < 95) {
+                myHashMap = myHashMap.clone();
+            } else if (operation < 97) {
+                myHashMap = serializeAndDeserialize(myHashMap);
+            } else if (operation < 98) {
+                Map<CollidingKey, Integer> batch = new HashMap<>();
+                for (int i = random.nextInt(16); i > 0; i--) {
+                    batch.put(randomKey(random, keyRange), random.nextInt());
+                }
+                model.putAll(batch);
+                myHashMap.putAll(batch);
+            } else if (random.nextInt(10) == 0) {
+                model.clear();
+                myHashMap.clear();
+            }
+            Assertions.assertEquals(model.size(), myHashMap.size(), context);
+        }
+        assertSameContent(model, myHashMap, "seed " + seed + ", final state");
+    }
+
+    private static void assertSameContent(Map<CollidingKey, Integer> model, MyHashMap<CollidingKey, Integer> myHashMap,
+                                          String context) {
+        Assertions.assertEquals(model.size(), myHashMap.size(), context);
+        Assertions.assertEquals(model.size(), myHashMap.entrySet().size(), context);
+        Assertions.assertEquals(model.entrySet(), myHashMap.entrySet(), context);
+        Assertions.assertEquals(myHashMap.entrySet(), model.entrySet(), context);
+        Assertions.assertEquals(model.hashCode(), myHashMap.hashCode(), context);
+        for (Map.Entry<CollidingKey, Integer> entry : myHashMap.entrySet()) {
+            Assertions.assertTrue(model.containsKey(entry.getKey()), context);
+            Assertions.assertEquals(model.get(entry.getKey()), entry.getValue(), context);
+        }
+        for (Map.Entry<CollidingKey, Integer> entry : model.entrySet()) {
+            Assertions.assertEquals(entry.getValue(), myHashMap.get(entry.getKey()), context);
+        }
+    }
+
+    /**
+     * Method returns a random key; null keys and keys sharing a hash code are generated on purpose.
+     */
+    private static CollidingKey randomKey(Random random, int keyRange) {
+        if (random.nextInt(50) == 0) {
+            return null;
+        }
+        return new CollidingKey(random.nextInt(keyRange));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T serializeAndDeserialize(T object) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+                out.writeObject(object);
+            }
+            try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+                return (T) in.readObject();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (ClassNotFoundException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Key with a deliberately poor hash code: every four ids share a hash, and id 0 hashes to Integer.MIN_VALUE.
+     */
+    record CollidingKey(int id) implements Serializable {
+
+        @Override
+        public int hashCode() {
+            return id < 4 ? Integer.MIN_VALUE : id / 4;
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package ru.kravchenko.astontasks;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Long-running tests, executed only with the stress profile: mvn test -Pstress.
+ */
+@Tag("stress")
+class MyHashMapStressTest {
+
+    private static final int THREADS = 8;
+
+    private static final int OPERATIONS_PER_THREAD = 200000;
+
+    @Test
+    void randomOperationsTestLongSequences() {
+        long seed = Long.getLong("stress.seed", System.nanoTime());
+        Random random = new Random(seed);
+        for (int run = 0; run < 50; run++) {
+            MyHashMapModelTest.runRandomOperations(random.nextLong(), 200000, 1 + random.nextInt(100000));
+        }
+    }
+
+    @Test
+    void synchronizedMapTestConcurrentWriters() throws Exception {
+        Map<Integer, Integer> map = Collections.synchronizedMap(new MyHashMap<>());
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int thread = 0; thread < THREADS; thread++) {
+                int offset = thread;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < OPERATIONS_PER_THREAD; i++) {
+                        int key = i * THREADS + offset;
+                        map.put(key, key);
+                        if (i % 2 == 1) {
+                            Assertions.assertEquals(key, map.remove(key));
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        Assertions.assertEquals(THREADS * OPERATIONS_PER_THREAD / 2, map.size());
+        for (int i = 0; i < OPERATIONS_PER_THREAD; i += 2) {
+            for (int thread = 0; thread < THREADS; thread++) {
+                int key = i * THREADS + thread;
+                Assertions.assertEquals(key, map.get(key));
+            }
+        }
+    }
+
+    @Test
+    void asyncMapTestConcurrentClients() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS * 4);
+        try (AsyncMap<Integer, Integer> asyncMap = new AsyncMap<>()) {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int thread = 0; thread < THREADS * 4; thread++) {
+                int offset = thread;
+                futures.add(executor.submit(() -> {
+                    Random random = new Random(offset);
+                    for (int i = 0; i < OPERATIONS_PER_THREAD / 100; i++) {
+                        Map<Integer, Integer> batch = new HashMap<>();
+                        for (int j = 0; j < 16; j++) {
+                            int key = random.nextInt(100000) * THREADS * 4 + offset;
+                            batch.put(key, key);
+                        }
+                        CompletableFuture<Void> stored = asyncMap.putAll(batch);
+                        Map<Integer, Integer> values = asyncMap.getAll(batch.keySet()).join();
+                        Assertions.assertTrue(stored.isDone());
+                        Assertions.assertEquals(batch, values);
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -5,8 +5,15 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.Map;
 import java.util.Set;
 
@@ -97,6 +104,16 @@ class MyHashMapTest {
         }
     }
 
+    @Test
+    void getTestEqualHashDifferentKey() {
+        MyHashMap<String, Integer> myHashMap = new MyHashMap<>();
+        myHashMap.put("Aa", 1);
+        myHashMap.put("BB", 2);
+        Assertions.assertEquals(1, myHashMap.get("Aa"));
+        Assertions.assertEquals(2, myHashMap.get("BB"));
+        Assertions.assertNull(myHashMap.get("C#"));
+    }
+
     @Test
     void putTest() {
         MyHashMap<String, Integer> myHashMap = new MyHashMap<>();
@@ -113,6 +130,20 @@ class MyHashMapTest {
         Assertions.assertNull(myHashMap.get(null));
     }
 
+    @Test
+    void putTestNullKeyKeepsBucket() {
+        MyHashMap<Integer, Integer> myHashMap = new MyHashMap<>();
+        myHashMap.put(16, 16);
+        myHashMap.put(null, 0);
+        myHashMap.put(null, 1);
+        Assertions.assertEquals(2, myHashMap.size());
+        Assertions.assertEquals(16, myHashMap.get(16));
+        Assertions.assertEquals(1, myHashMap.get(null));
+        Assertions.assertEquals(1, myHashMap.remove(null));
+        Assertions.assertEquals(16, myHashMap.get(16));
+        Assertions.assertEquals(1, myHashMap.size());
+    }
+
     @Test
     void putTestValueReturn(){
         MyHashMap<String, Integer> myHashMap = new MyHashMap<>();
@@ -181,6 +212,15 @@ class MyHashMapTest {
         Assertions.assertEquals(0, myHashMap.size());
     }
 
+    @Test
+    void clearTestAfterResize() {
+        MyHashMap<String, Integer> myHashMap = fillMillionNodes();
+        myHashMap.clear();
+        myHashMap.put("key", 1);
+        Assertions.assertEquals(1, myHashMap.get("key"));
+        Assertions.assertEquals(1, myHashMap.size());
+    }
+
     @Test
     void keySetTest() {
         MyHashMap<String, Integer> myHashMap = fillMyHashMap();
@@ -210,6 +250,29 @@ class MyHashMapTest {
         Assertions.assertEquals(entrySet.size(), myHashMap.size());
     }
 
+    @Test
+    void entrySetTestSymmetricEquality() {
+        MyHashMap<String, Integer> myHashMap = fillMyHashMap();
+        Map<String, Integer> hashMap = new HashMap<>(myHashMap);
+        Assertions.assertEquals(hashMap.entrySet(), myHashMap.entrySet());
+        Assertions.assertEquals(myHashMap.entrySet(), hashMap.entrySet());
+        Assertions.assertEquals(hashMap.hashCode(), myHashMap.hashCode());
+    }
+
+    @Test
+    void entrySetTestIteratorRemove() {
+        MyHashMap<String, Integer> myHashMap = fillMyHashMap();
+        Iterator<Map.Entry<String, Integer>> iterator = myHashMap.entrySet().iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().getValue() % 2 == 0) {
+                iterator.remove();
+            }
+        }
+        Assertions.assertEquals(5, myHashMap.size());
+        Assertions.assertFalse(myHashMap.containsKey("key 0"));
+        Assertions.assertEquals(1, myHashMap.get("key 1"));
+    }
+
     @Test
     void equalsTestSameMap() {
         MyHashMap<String, Integer> myHashMap = fillMyHashMap();
@@ -232,6 +295,97 @@ class MyHashMapTest {
         Assertions.assertFalse(myHashMap.equals(unequalMyHashMap));
     }
 
+    @Test
+    void cloneTest() {
+        MyHashMap<String, Integer> myHashMap = fillMyHashMap();
+        MyHashMap<String, Integer> clonedMyHashMap = myHashMap.clone();
+        Assertions.assertNotSame(myHashMap, clonedMyHashMap);
+        Assertions.assertEquals(myHashMap, clonedMyHashMap);
+        clonedMyHashMap.put("key 10", 10);
+        clonedMyHashMap.put("key 0", 100);
+        Assertions.assertEquals(10, myHashMap.size());
+        Assertions.assertEquals(0, myHashMap.get("key 0"));
+        Assertions.assertNull(myHashMap.get("key 10"));
+    }
+
+    @Test
+    void serializationTest() throws IOException, ClassNotFoundException {
+        MyHashMap<String, Integer> myHashMap = fillMyHashMap();
+        MyHashMap<String, Integer> deserializedMyHashMap = serializeAndDeserialize(myHashMap);
+        Assertions.assertEquals(myHashMap, deserializedMyHashMap);
+        Assertions.assertEquals(10, deserializedMyHashMap.size());
+        Assertions.assertEquals(9, deserializedMyHashMap.get("key 9"));
+    }
+
+    @Test
+    void serializationTestMillionNodes() throws IOException, ClassNotFoundException {
+        MyHashMap<String, Integer> deserializedMyHashMap = serializeAndDeserialize(fillMillionNodes());
+        Assertions.assertEquals(1000000, deserializedMyHashMap.size());
+        for (int i = 1; i <= 1000000; i++) {
+            Assertions.assertEquals(i, deserializedMyHashMap.get("key " + i));
+        }
+    }
+
+    @Test
+    void readExternalTestHugeArrayLength() throws IOException, ClassNotFoundException {
+        MyHashMap<String, Integer> myHashMap = new MyHashMap<>();
+        myHashMap.readExternal(headers(1, Integer.MAX_VALUE, 0.75f, "key", 1));
+        Assertions.assertEquals(1, myHashMap.get("key"));
+        Assertions.assertTrue(((Object[]) myHashMap.getNodesArray()).length <= 32);
+    }
+
+    @Test
+    void serializationTestSmallLoadFactor() throws IOException, ClassNotFoundException {
+        MyHashMap<String, Integer> myHashMap = new MyHashMap<>(0.01f);
+        myHashMap.put("a", 1);
+        MyHashMap<String, Integer> deserializedMyHashMap = serializeAndDeserialize(myHashMap);
+        Assertions.assertEquals(myHashMap, deserializedMyHashMap);
+        Assertions.assertEquals(1, deserializedMyHashMap.get("a"));
+    }
+
+    @Test
+    void readExternalTestSizeAboveLoadFactor() throws IOException, ClassNotFoundException {
+        MyHashMap<String, Integer> myHashMap = new MyHashMap<>();
+        myHashMap.readExternal(headers(2, 16, 0.01f, "a", 1, "b", 2));
+        Assertions.assertEquals(2, myHashMap.size());
+        Assertions.assertEquals(1, myHashMap.get("a"));
+        Assertions.assertEquals(2, myHashMap.get("b"));
+    }
+
+    @Test
+    void readExternalTestInconsistentHeaders() {
+        MyHashMap<String, Integer> myHashMap = new MyHashMap<>();
+        Assertions.assertThrows(InvalidObjectException.class,
+                () -> myHashMap.readExternal(headers(Integer.MAX_VALUE, Integer.MAX_VALUE, 0.75f)));
+        Assertions.assertThrows(InvalidObjectException.class,
+                () -> myHashMap.readExternal(headers(0, 16, Float.NaN)));
+    }
+
+    private static ObjectInputStream headers(int size, int arrayLength, float loadFactor, Object... keysAndValues)
+            throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeInt(size);
+            out.writeInt(arrayLength);
+            out.writeFloat(loadFactor);
+            for (Object object : keysAndValues) {
+                out.writeObject(object);
+            }
+        }
+        return new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T serializeAndDeserialize(T object) throws IOException, ClassNotFoundException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(object);
+        }
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            return (T) in.readObject();
+        }
+    }
+
     private static MyHashMap<String, Integer> fillMyHashMap() {
         MyHashMap<String, Integer> myHashMap = new MyHashMap<>();
         for (int i = 0; i < 10; i++) {
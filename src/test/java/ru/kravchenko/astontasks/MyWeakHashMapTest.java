@@ -0,0 +1,147 @@
+package ru.kravchenko.astontasks;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.lang.ref.Reference;
+import java.lang.ref.WeakReference;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+class MyWeakHashMapTest {
+
+    @Test
+    void putTest() {
+        MyWeakHashMap<String, Integer> myWeakHashMap = new MyWeakHashMap<>();
+        Assertions.assertEquals(125, myWeakHashMap.put("key", 125));
+        Assertions.assertEquals(1, myWeakHashMap.size());
+        Assertions.assertEquals(125, myWeakHashMap.get("key"));
+    }
+
+    @Test
+    void putTestNullKey() {
+        MyWeakHashMap<String, Integer> myWeakHashMap = new MyWeakHashMap<>();
+        myWeakHashMap.put(null, 10);
+        Assertions.assertTrue(myWeakHashMap.containsKey(null));
+        Assertions.assertEquals(10, myWeakHashMap.get(null));
+        Assertions.assertEquals(10, myWeakHashMap.remove(null));
+        Assertions.assertTrue(myWeakHashMap.isEmpty());
+    }
+
+    @Test
+    void removeTest() {
+        MyWeakHashMap<String, Integer> myWeakHashMap = new MyWeakHashMap<>();
+        myWeakHashMap.put("key", 1);
+        Assertions.assertEquals(1, myWeakHashMap.remove("key"));
+        Assertions.assertNull(myWeakHashMap.remove("key"));
+        Assertions.assertFalse(myWeakHashMap.containsKey("key"));
+    }
+
+    @Test
+    void entrySetTest() {
+        MyWeakHashMap<String, Integer> myWeakHashMap = new MyWeakHashMap<>();
+        Map<String, Integer> expected = new HashMap<>();
+        for (int i = 0; i < 100; i++) {
+            myWeakHashMap.put("key " + i, i);
+            expected.put("key " + i, i);
+        }
+        Assertions.assertEquals(expected, myWeakHashMap);
+        Assertions.assertEquals(expected.keySet(), myWeakHashMap.keySet());
+    }
+
+    @Test
+    void increaseSizeTestDropsClearedNodes() throws ReflectiveOperationException {
+        MyWeakHashMap<String, Integer> myWeakHashMap = new MyWeakHashMap<>(16);
+        List<String> keys = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            keys.add("key " + i);
+            myWeakHashMap.put(keys.get(i), i);
+        }
+        List<Reference<?>> clearedNodes = new ArrayList<>();
+        for (Reference<?> node : nodes(myWeakHashMap)) {
+            String key = (String) node.get();
+            if (keys.indexOf(key) % 2 == 0) {
+                node.clear();
+                clearedNodes.add(node);
+            }
+        }
+        Assertions.assertEquals(6, clearedNodes.size());
+
+        myWeakHashMap.put("key 12", 12);
+        Assertions.assertEquals(7, nodes(myWeakHashMap).size());
+        Assertions.assertEquals(7, myWeakHashMap.size());
+
+        for (Reference<?> node : clearedNodes) {
+            Assertions.assertTrue(node.enqueue());
+        }
+        Assertions.assertEquals(7, myWeakHashMap.size());
+        for (int i = 1; i <= 12; i += 2) {
+            Assertions.assertEquals(i, myWeakHashMap.get("key " + i));
+        }
+        Assertions.assertEquals(12, myWeakHashMap.get("key 12"));
+        Assertions.assertNull(myWeakHashMap.get("key 0"));
+    }
+
+    @Test
+    void increaseSizeTestAfterCollection() throws InterruptedException {
+        MyWeakHashMap<Object, Integer> myWeakHashMap = new MyWeakHashMap<>();
+        for (int i = 0; i < 1000; i++) {
+            myWeakHashMap.put(new Object(), i);
+        }
+        WeakReference<Object> sentinel = new WeakReference<>(new Object());
+        for (int attempt = 0; attempt < 50 && sentinel.get() != null; attempt++) {
+            System.gc();
+            Thread.sleep(20);
+        }
+        List<Object> retainedKeys = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            retainedKeys.add(new Object());
+            myWeakHashMap.put(retainedKeys.get(i), i);
+        }
+        for (int attempt = 0; attempt < 50 && myWeakHashMap.size() > retainedKeys.size(); attempt++) {
+            System.gc();
+            Thread.sleep(20);
+        }
+        Assertions.assertEquals(retainedKeys.size(), myWeakHashMap.size());
+        for (int i = 0; i < retainedKeys.size(); i++) {
+            Assertions.assertEquals(i, myWeakHashMap.get(retainedKeys.get(i)));
+        }
+    }
+
+    @Test
+    void expungeTestUnreachableKeys() throws InterruptedException {
+        MyWeakHashMap<Object, Integer> myWeakHashMap = new MyWeakHashMap<>();
+        Object retainedKey = new Object();
+        myWeakHashMap.put(retainedKey, -1);
+        for (int i = 0; i < 1000; i++) {
+            myWeakHashMap.put(new Object(), i);
+        }
+        for (int attempt = 0; attempt < 50 && myWeakHashMap.size() > 1; attempt++) {
+            System.gc();
+            Thread.sleep(20);
+        }
+        Assertions.assertEquals(1, myWeakHashMap.size());
+        Assertions.assertEquals(-1, myWeakHashMap.get(retainedKey));
+    }
+
+    /**
+     * Method returns all nodes stored in the map, read through reflection.
+     */
+    private static List<Reference<?>> nodes(MyWeakHashMap<?, ?> myWeakHashMap) throws ReflectiveOperationException {
+        Field nodesArrayField = MyWeakHashMap.class.getDeclaredField("nodesArray");
+        nodesArrayField.setAccessible(true);
+        List<Reference<?>> nodes = new ArrayList<>();
+        for (Object node : (Object[]) nodesArrayField.get(myWeakHashMap)) {
+            while (node != null) {
+                nodes.add((Reference<?>) node);
+                Field nextField = node.getClass().getDeclaredField("next");
+                nextField.setAccessible(true);
+                node = nextField.get(node);
+            }
+        }
+        return nodes;
+    }
+}
@@ -0,0 +1,72 @@
+package ru.kravchenko.astontasks;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Simple benchmark comparing serialization of MyHashMap and java.util.HashMap.
+ * It is not run by the test phase; launch it manually via its main method.
+ */
+public class SerializationBenchmark {
+
+    private static final int ENTRIES = 1000000;
+
+    private static final int WARMUP_ROUNDS = 5;
+
+    private static final int MEASURED_ROUNDS = 10;
+
+    public static void main(String[] args) throws IOException, ClassNotFoundException {
+        Map<String, Integer> myHashMap = new MyHashMap<>();
+        Map<String, Integer> hashMap = new HashMap<>();
+        for (int i = 0; i < ENTRIES; i++) {
+            myHashMap.put("key " + i, i);
+            hashMap.put("key " + i, i);
+        }
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            roundTrip(myHashMap);
+            roundTrip(hashMap);
+        }
+        report("MyHashMap", myHashMap);
+        report("HashMap", hashMap);
+    }
+
+    private static void report(String name, Map<String, Integer> map) throws IOException, ClassNotFoundException {
+        long writeNanos = 0;
+        long readNanos = 0;
+        int bytesLength = 0;
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            long start = System.nanoTime();
+            byte[] bytes = write(map);
+            long written = System.nanoTime();
+            read(bytes);
+            readNanos += System.nanoTime() - written;
+            writeNanos += written - start;
+            bytesLength = bytes.length;
+        }
+        System.out.printf("%-10s write %8.2f ms, read %8.2f ms, %d bytes%n", name,
+                writeNanos / 1e6 / MEASURED_ROUNDS, readNanos / 1e6 / MEASURED_ROUNDS, bytesLength);
+    }
+
+    private static void roundTrip(Map<String, Integer> map) throws IOException, ClassNotFoundException {
+        read(write(map));
+    }
+
+    private static byte[] write(Map<String, Integer> map) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(map);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static Object read(byte[] bytes) throws IOException, ClassNotFoundException {
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+            return in.readObject();
+        }
+    }
+}